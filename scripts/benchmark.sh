@@ -0,0 +1,4 @@
+DIR="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+repodir="$(cd $DIR; git rev-parse --show-toplevel)"
+
+java -cp "$repodir/bin" com.michaelxdubois.tictactoe.SearchBenchmark
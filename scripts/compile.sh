@@ -2,3 +2,7 @@ DIR="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
 repodir="$(cd $DIR; git rev-parse --show-toplevel)"
 
 javac "$repodir"/src/com/michaelxdubois/tictactoe/*.java -d "$repodir/bin"
+# Jar for class data sharing (scripts/run.sh --cds). The old archive no
+# longer matches the classes, so drop it.
+rm -f "$repodir/bin/tictactoe.jsa"
+jar cf "$repodir/bin/tictactoe.jar" -C "$repodir/bin" com
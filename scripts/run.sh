@@ -1,4 +1,36 @@
 DIR="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
 repodir="$(cd $DIR; git rev-parse --show-toplevel)"
 
-java -cp "$repodir/bin" com.michaelxdubois.tictactoe.TicTacToe $1 $2 $3
+classpath="$repodir/bin"
+jvmopts=()
+while [[ "$1" == --* ]]; do
+    case "$1" in
+        --warmup)
+            jvmopts+=("-Dtictactoe.warmup=${WARMUP_MS:-100}")
+            ;;
+        --ponder)
+            jvmopts+=("-Dtictactoe.ponder=true")
+            ;;
+        --timing)
+            jvmopts+=("-Dtictactoe.timing=true")
+            ;;
+        --cds)
+            # Class data sharing only archives classes loaded from a jar.
+            # The first run dumps the archive, later runs map it.
+            classpath="$repodir/bin/tictactoe.jar"
+            archive="$repodir/bin/tictactoe.jsa"
+            if [ -f "$archive" ]; then
+                jvmopts+=("-XX:SharedArchiveFile=$archive")
+            else
+                jvmopts+=("-XX:ArchiveClassesAtExit=$archive")
+            fi
+            ;;
+        *)
+            echo "Unknown option $1"
+            exit 1
+            ;;
+    esac
+    shift
+done
+
+java "${jvmopts[@]}" -cp "$classpath" com.michaelxdubois.tictactoe.TicTacToe $1 $2 $3
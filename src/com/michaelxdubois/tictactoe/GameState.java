@@ -20,6 +20,10 @@ class GameState {
     public static final int BOARD_COL_LENGTH = BOARD_ROW_LENGTH;
     public static final int BOARD_TOTAL_RUNS = 
         BOARD_ROW_LENGTH + BOARD_COL_LENGTH + 2;
+    // Square indices of every run (rows, then cols, then diaganols)
+    public static final int[][] RUNS = computeRunIndices();
+    // Number of distinct board codes, see getBoardCode()
+    public static final int BOARD_CODES = (int) Math.pow(3, BOARD_SQUARES);
     // Width of the board when printed, used for pretty toString
     private static final int BOARD_CHAR_WIDTH = BOARD_ROW_LENGTH * 4 + 1;
 
@@ -42,6 +46,23 @@ class GameState {
         squares = new int[BOARD_SQUARES]; // all zeroes by default
     }
 
+    /**
+     * Constructs a GameState from a board code (see getBoardCode()).
+     * The moving player is inferred from the board and the last move is 
+     * unknown (-1).
+     * @param boardCode - int in [0, BOARD_CODES)
+     */
+    public GameState(int boardCode) {
+        if(boardCode < 0 || boardCode >= BOARD_CODES) {
+            throw new IllegalArgumentException(
+                    boardCode + " is not a valid board code.");
+        }
+        squares = new int[BOARD_SQUARES];
+        filledSquares = decodeBoard(boardCode, squares);
+        // P1 moves first, so P1 is moving whenever an even number are filled
+        movingPlayer = (filledSquares % 2 == 0) ? P1 : P2;
+    }
+
     /**
      * Constructs a GameState from a previous GameState and a move.
      * @param g - the previous GameState
@@ -68,6 +89,51 @@ class GameState {
         movingPlayer = -1*g.getMovingPlayer();
     }
 
+    /**
+     * Returns the square indices of every row, column and diaganol.
+     * @return int[][] of BOARD_TOTAL_RUNS runs, each BOARD_ROW_LENGTH long
+     */
+    private static int[][] computeRunIndices() {
+        int[][] runs = new int[BOARD_TOTAL_RUNS][BOARD_ROW_LENGTH];
+        for(int i=0; i < BOARD_ROW_LENGTH; i++) {
+            for(int j=0; j < BOARD_ROW_LENGTH; j++) {
+                // row i, then col i
+                runs[i][j] = (i*BOARD_ROW_LENGTH) + j;
+                runs[BOARD_ROW_LENGTH + i][j] = (j*BOARD_ROW_LENGTH) + i;
+            }
+            runs[2*BOARD_ROW_LENGTH][i] = (i*BOARD_ROW_LENGTH) + i;
+            runs[2*BOARD_ROW_LENGTH + 1][i] = 
+                (i*BOARD_ROW_LENGTH) + (BOARD_ROW_LENGTH - i - 1);
+        }
+        return runs;
+    }
+
+    /**
+     * Returns every distinct non-terminal position reachable from the start.
+     * @return List<GameState> ordered by number of filled squares
+     */
+    public static List<GameState> reachablePositions() {
+        List<GameState> positions = new ArrayList<GameState>();
+        boolean[] seen = new boolean[BOARD_CODES];
+        List<GameState> frontier = new ArrayList<GameState>();
+        frontier.add(new GameState());
+        while(!frontier.isEmpty()) {
+            List<GameState> next = new ArrayList<GameState>();
+            for(GameState g : frontier) {
+                positions.add(g);
+                for(GameState child : g.getChildren()) {
+                    int code = child.getBoardCode();
+                    if(!seen[code] && !child.isTerminal()) {
+                        seen[code] = true;
+                        next.add(child);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return positions;
+    }
+
     /**
      * Returns true if this GameState marks the end of the game.
      * @return boolean, true if game tied or a player won, false if not over.
@@ -269,6 +335,48 @@ class GameState {
         return filledSquares;
     }
 
+    /**
+     * Returns the token in the given square.
+     * @param idx - the int index of the square
+     * @return int GameState.P1, GameState.P2 or zero if the square is empty
+     */
+    public int getSquare(int idx) {
+        return squares[idx];
+    }
+
+    /**
+     * Returns a unique code for the board, reading the squares as the digits
+     * of a base-3 number (0 empty, 1 P1, 2 P2) with square 0 least 
+     * significant. The moving player is implied by the board.
+     * @return int in [0, BOARD_CODES)
+     */
+    public int getBoardCode() {
+        int code = 0;
+        for(int i=squares.length - 1; i >= 0; i--) {
+            code = code*3 + ((squares[i] == P2) ? 2 : squares[i]);
+        }
+        return code;
+    }
+
+    /**
+     * Decodes a board code into the given squares array.
+     * @param boardCode - int in [0, BOARD_CODES)
+     * @param squares - int[] BOARD_SQUARES long, overwritten with tokens
+     * @return int number of squares filled
+     */
+    public static int decodeBoard(int boardCode, int[] squares) {
+        int filled = 0;
+        for(int i=0; i < BOARD_SQUARES; i++) {
+            int digit = boardCode % 3;
+            squares[i] = (digit == 2) ? P2 : digit;
+            if(digit != 0) {
+                filled++;
+            }
+            boardCode /= 3;
+        }
+        return filled;
+    }
+
     /** 
      * Returns a copy of the squares array.
      * @return int[] copy of squares array
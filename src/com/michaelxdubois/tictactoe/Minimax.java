@@ -1,6 +1,6 @@
 package com.michaelxdubois.tictactoe;
 
-import java.util.List;
+import java.util.concurrent.CancellationException;
 
 /**
  * A class that performs minimax on TicTacToe GameStates.
@@ -12,6 +12,8 @@ class Minimax {
     // A win score that is large enough that it won't conflict with heuristic 
     // scores
     public static final int WIN_SCORE = 2*GameState.BOARD_TOTAL_RUNS;
+    // Deepest useful search: deeper ones reach the end of every game too
+    public static final int MAX_DEPTH = GameState.BOARD_SQUARES;
     
     /**
      * Private constructor. No Minimax instances for you.
@@ -26,8 +28,56 @@ class Minimax {
      * @return int index of square in GameState representing optimal move
      */
     public static int getOptimalMove(GameState g, int depth) {
+        return getOptimalMove(g, depth, new MoveOrderer());
+    }
+
+    /**
+     * Static method to get the moving player's optimal move from current state,
+     * reusing and filling a cache that may be shared with other threads.
+     * @param g - current GameState
+     * @param depth - int depth to search the GameState tree
+     * @param cache - SearchCache of optimal and best moves
+     * @return int index of square in GameState representing optimal move
+     */
+    public static int getOptimalMove(GameState g, int depth, 
+            SearchCache cache) {
+        int code = g.getBoardCode();
+        int move = cache.getOptimalMove(code, depth);
+        if(move == -1) {
+            move = getOptimalMove(g, depth, new MoveOrderer(cache));
+            cache.putOptimalMove(code, depth, move);
+        }
+        return move;
+    }
+
+    /**
+     * Static method to get the moving player's optimal move from current state.
+     * @param g - current GameState
+     * @param depth - int depth to search the GameState tree
+     * @param orderer - MoveOrderer used to order (and count) searched moves
+     * @return int index of square in GameState representing optimal move
+     * @throws CancellationException if the calling thread is interrupted
+     */
+    public static int getOptimalMove(GameState g, int depth, 
+            MoveOrderer orderer) {
+        return getOptimalMove(g, depth, orderer, null);
+    }
+
+    /**
+     * Static method to get the moving player's optimal move from current state
+     * and its score from the same search.
+     * @param g - current GameState
+     * @param depth - int depth to search the GameState tree
+     * @param orderer - MoveOrderer used to order (and count) searched moves
+     * @param score - int[] whose first element receives the minimax score of
+     *  g (player1 maximizing), or null if not needed
+     * @return int index of square in GameState representing optimal move
+     * @throws CancellationException if the calling thread is interrupted
+     */
+    public static int getOptimalMove(GameState g, int depth, 
+            MoveOrderer orderer, int[] score) {
         // TODO run-blocking tie-breaking could make AI < 9 smarter
-        if(g.getFilledSquares() == 0) {
+        if(g.getFilledSquares() == 0 && score == null) {
             return GameState.BOARD_CENTER_IDX;
         }
         int playerToken = g.getMovingPlayer();
@@ -36,15 +86,29 @@ class Minimax {
         // positive if minimizing player, negative if maximizing player
         int bestScore = -2*playerToken*WIN_SCORE;
         for(GameState child : g.getChildren()) {
+            // Background searches (see Ponderer) are cancelled by interrupt
+            if(Thread.interrupted()) {
+                throw new CancellationException("Search interrupted.");
+            }
             // Get player1's score of this child (Max's score)
-            int score = minimax(child, depth-1, false);
+            // Each child gets the full window, so the root keeps its
+            // square-index tie-breaking regardless of move ordering.
+            int childScore = minimax(child, depth-1, 
+                    -1*WIN_SCORE, WIN_SCORE, orderer, false);
             // If playerToken is negative, it flips the inequality so that 
             // bestScore is minimized
-            if(playerToken*score > playerToken*bestScore) {
-                bestScore = score;
+            if(playerToken*childScore > playerToken*bestScore) {
+                bestScore = childScore;
                 optimalState = child;
             }
         }
+        if(score != null) {
+            score[0] = bestScore;
+        }
+        // The opening move is always the center, whatever the search found
+        if(g.getFilledSquares() == 0) {
+            return GameState.BOARD_CENTER_IDX;
+        }
         return optimalState.getLastMove();
     }
 
@@ -56,7 +120,8 @@ class Minimax {
      * @param debug - boolean, true turns on debug print statements
      */
     public static int minimax(GameState node, int depth, boolean debug) {
-        return minimax(node, depth, -1*WIN_SCORE, WIN_SCORE, debug);
+        return minimax(node, depth, 
+                -1*WIN_SCORE, WIN_SCORE, new MoveOrderer(), debug);
     }
 
     /**
@@ -65,13 +130,16 @@ class Minimax {
      * @param depth - int, the max depth to search the tree
      * @param alpha - int, the best score yet found
      * @param beta - int, the worst score yet found
+     * @param orderer - MoveOrderer that orders children and records cutoffs
      * @param debug - boolean, true turns on debug print statements
      */
     private static int minimax(GameState node, 
             int depth, 
             int alpha, 
             int beta, 
+            MoveOrderer orderer,
             boolean debug) {
+        orderer.countNode();
         int initialAlpha = alpha;
         int initialBeta = beta;
         // Get the current moving player (-1 is Min, +1 is Max)
@@ -103,24 +171,32 @@ class Minimax {
             beta = -1*node.unblockedPartialRuns(GameState.P2);
         } else {
             // Recursively score this node's children to determine it's score.
-            for(GameState child : node.getChildren()) {
-                int value = minimax(child, depth - 1, alpha, beta, debug);
+            // Children are expanded in order of promise so cutoffs come early.
+            int bestMove = -1;
+            for(int move : orderer.orderMoves(node, depth)) {
+                GameState child = new GameState(node, move);
+                int value = minimax(child, depth - 1, 
+                        alpha, beta, orderer, debug);
                 // If moving player is Max
-                if(playerToken > 0) {
-                    alpha = Math.max(alpha, value);
+                if(playerToken > 0 && value > alpha) {
+                    alpha = value;
+                    bestMove = move;
                 }
                 // If moving player is Min
-                if(playerToken < 0) {
-                    beta = Math.min(beta, value);
+                if(playerToken < 0 && value < beta) {
+                    beta = value;
+                    bestMove = move;
                 }
                 // If the worst score is leq than the best score we've found
                 if(beta <= alpha) {
                     // Then we don't need to look at any more of node's children
                     // b/c node's score will definitely be worse than one of
                     // it's sibling nodes
+                    orderer.recordCutoff(node, move, depth);
                     break;
                 }
             }
+            orderer.recordBestMove(node, bestMove);
         }
         if(debug) {
             System.out.println(node.toString());
@@ -0,0 +1,248 @@
+package com.michaelxdubois.tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * Orders the moves available from a GameState so that Minimax's alpha-beta
+ * pruning sees the most promising ones first. The killer, history and
+ * transposition tables are filled in by Minimax as it searches, so a
+ * MoveOrderer should be used for a single search (or a single game).
+ * @author Michael DuBois
+ * @version 2013.10.12
+ */
+class MoveOrderer {
+
+    // Ordering bonuses, each large enough to outrank everything below it
+    private static final int WIN_BONUS = 1 << 20;
+    private static final int BLOCK_BONUS = 1 << 19;
+    private static final int TT_MOVE_BONUS = 1 << 18;
+    private static final int KILLER_BONUS = 1 << 17;
+    private static final int HISTORY_SHIFT = 4;
+    private static final int HISTORY_MAX = (KILLER_BONUS >> HISTORY_SHIFT) - 1;
+
+    // Static priority of each square is the number of runs through it:
+    // center, then corners, then edges.
+    private static final int[] SQUARE_PRIORITY = computeSquarePriority();
+    private static final int KILLERS_PER_DEPTH = 2;
+
+    private boolean useHeuristics = true;
+    private long nodeCount = 0;
+
+    // Transposition table: best move + 1 found from each board code, 0 if none
+    private byte[] bestMoves;
+    // Shared transposition table used instead of bestMoves, if not null
+    private SearchCache cache;
+    // Moves that caused a cutoff, indexed by remaining search depth
+    private int[][] killers;
+    // Cutoff counts weighted by depth, indexed by player (P1 first) and square
+    private int[][] history;
+
+    /**
+     * Constructs a MoveOrderer using every ordering heuristic.
+     */
+    public MoveOrderer() {
+        this(true);
+    }
+
+    /**
+     * Constructs a MoveOrderer.
+     * @param useHeuristics - false to keep plain square-index order, which
+     *  is what Minimax did before move ordering (useful for comparisons)
+     */
+    public MoveOrderer(boolean useHeuristics) {
+        this(useHeuristics, null);
+    }
+
+    /**
+     * Constructs a MoveOrderer using every ordering heuristic, with a
+     * transposition table shared through cache.
+     * @param cache - SearchCache to read and record best moves in
+     */
+    public MoveOrderer(SearchCache cache) {
+        this(true, cache);
+    }
+
+    /**
+     * Constructs a MoveOrderer, allocating only the tables it will use.
+     * @param useHeuristics - false to keep plain square-index order
+     * @param cache - shared SearchCache, or null for a private table
+     */
+    private MoveOrderer(boolean useHeuristics, SearchCache cache) {
+        this.useHeuristics = useHeuristics;
+        this.cache = cache;
+        if(useHeuristics) {
+            if(cache == null) {
+                bestMoves = new byte[GameState.BOARD_CODES];
+            }
+            killers = new int[GameState.BOARD_SQUARES + 1][KILLERS_PER_DEPTH];
+            for(int[] k : killers) {
+                Arrays.fill(k, -1);
+            }
+            history = new int[2][GameState.BOARD_SQUARES];
+        }
+    }
+
+    /**
+     * Returns the number of runs that pass through each square.
+     * @return int[] BOARD_SQUARES long
+     */
+    private static int[] computeSquarePriority() {
+        int[] priority = new int[GameState.BOARD_SQUARES];
+        for(int[] run : GameState.RUNS) {
+            for(int idx : run) {
+                priority[idx]++;
+            }
+        }
+        return priority;
+    }
+
+    /**
+     * Returns the empty squares of node, most promising first.
+     * @param node - the non-terminal GameState whose moves to order
+     * @param depth - int remaining search depth at node
+     * @return int[] of square indices
+     */
+    public int[] orderMoves(GameState node, int depth) {
+        int[] moves = 
+            new int[GameState.BOARD_SQUARES - node.getFilledSquares()];
+        int n = 0;
+        for(int i=0; i < GameState.BOARD_SQUARES && n < moves.length; i++) {
+            if(node.getSquare(i) == 0) {
+                moves[n++] = i;
+            }
+        }
+        if(!useHeuristics) {
+            return moves;
+        }
+
+        int player = node.getMovingPlayer();
+        int[] scores = new int[GameState.BOARD_SQUARES];
+        int[] playerHistory = history[playerIndex(player)];
+        for(int i=0; i < n; i++) {
+            int h = Math.min(playerHistory[moves[i]], HISTORY_MAX);
+            scores[moves[i]] = SQUARE_PRIORITY[moves[i]] + (h << HISTORY_SHIFT);
+        }
+        scoreThreats(node, player, scores);
+        for(int killer : killers[killerSlot(depth)]) {
+            if(killer != -1 && node.getSquare(killer) == 0) {
+                scores[killer] += KILLER_BONUS;
+            }
+        }
+        int ttMove = (cache != null) ? cache.getBestMove(node.getBoardCode()) :
+            bestMoves[node.getBoardCode()] - 1;
+        if(ttMove != -1) {
+            scores[ttMove] += TT_MOVE_BONUS;
+        }
+
+        // Insertion sort, highest score first. There are at most 9 moves.
+        for(int i=1; i < n; i++) {
+            int move = moves[i];
+            int j = i - 1;
+            while(j >= 0 && scores[moves[j]] < scores[move]) {
+                moves[j + 1] = moves[j];
+                j--;
+            }
+            moves[j + 1] = move;
+        }
+        return moves;
+    }
+
+    /**
+     * Adds bonuses for squares that win immediately or block an immediate
+     * win by the opponent.
+     * @param node - the GameState being ordered
+     * @param player - int token of the moving player
+     * @param scores - int[] of scores indexed by square, updated in place
+     */
+    private void scoreThreats(GameState node, int player, int[] scores) {
+        for(int[] run : GameState.RUNS) {
+            int own = 0;
+            int opponent = 0;
+            int empty = -1;
+            for(int idx : run) {
+                int token = node.getSquare(idx);
+                if(token == player) {
+                    own++;
+                } else if(token == -1*player) {
+                    opponent++;
+                } else {
+                    empty = idx;
+                }
+            }
+            if(own == run.length - 1 && opponent == 0) {
+                scores[empty] += WIN_BONUS;
+            } else if(opponent == run.length - 1 && own == 0) {
+                scores[empty] += BLOCK_BONUS;
+            }
+        }
+    }
+
+    /**
+     * Records a move that caused a beta/alpha cutoff at node.
+     * @param node - the GameState at which the cutoff happened
+     * @param move - int index of the square that caused it
+     * @param depth - int remaining search depth at node
+     */
+    public void recordCutoff(GameState node, int move, int depth) {
+        if(!useHeuristics) {
+            return;
+        }
+        int[] depthKillers = killers[killerSlot(depth)];
+        if(depthKillers[0] != move) {
+            depthKillers[1] = depthKillers[0];
+            depthKillers[0] = move;
+        }
+        history[playerIndex(node.getMovingPlayer())][move] += depth*depth;
+    }
+
+    /**
+     * Records the best move found from node in the transposition table.
+     * @param node - the searched GameState
+     * @param move - int index of the best square, or -1 if none was found
+     */
+    public void recordBestMove(GameState node, int move) {
+        if(!useHeuristics || move == -1) {
+            return;
+        }
+        if(cache != null) {
+            cache.putBestMove(node.getBoardCode(), move);
+        } else {
+            bestMoves[node.getBoardCode()] = (byte) (move + 1);
+        }
+    }
+
+    /**
+     * Counts a node visited by Minimax.
+     */
+    public void countNode() {
+        nodeCount++;
+    }
+
+    /**
+     * Returns the number of nodes Minimax has visited with this MoveOrderer.
+     * @return long node count
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the killers index of a remaining search depth. Depths beyond
+     * the number of squares search the same tree, and Minimax never stops at
+     * depths below zero, so both ends share the outermost slots.
+     * @param depth - int remaining search depth
+     * @return int in [0, BOARD_SQUARES]
+     */
+    private static int killerSlot(int depth) {
+        return Math.max(0, Math.min(depth, GameState.BOARD_SQUARES));
+    }
+
+    /**
+     * Returns the table index of a player token.
+     * @param playerToken - int GameState.P1 or GameState.P2
+     * @return int 0 for P1, 1 for P2
+     */
+    private static int playerIndex(int playerToken) {
+        return (playerToken == GameState.P1) ? 0 : 1;
+    }
+}
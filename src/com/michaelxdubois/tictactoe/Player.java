@@ -1,6 +1,7 @@
 package com.michaelxdubois.tictactoe;
 
 import java.io.*;
+import java.lang.management.ManagementFactory;
 
 /**
  * A Tic Tac Toe player that can be either Minimax AI or user via CLI.
@@ -9,10 +10,16 @@ import java.io.*;
  */
 class Player {
 
+    // -Dtictactoe.timing=true prints how long each AI move took
+    private static final boolean REPORT_TIMING = 
+        Boolean.getBoolean("tictactoe.timing");
+
     private String name;
     private int AILevel = 0;
     private boolean nameEndsWithS = false;
-    private int wins = 0;
+    private PlayerStats stats = new PlayerStats();
+    // Background search during the opponent's turn, null unless enabled
+    private Ponderer ponderer = null;
 
     /**
      * Constructs a Player, either AI or user depending on format of name.
@@ -51,11 +58,60 @@ class Player {
             move = getMoveFromUser();
         } else {
             // Otherwise, minimax with AILevel plies
+            long start = System.nanoTime();
+            move = getAIMove(gameState);
+            if(REPORT_TIMING) {
+                System.out.println(String.format(
+                            "(thought for %.3f ms, %d ms since JVM start)",
+                            (System.nanoTime() - start) / 1e6,
+                            ManagementFactory.getRuntimeMXBean().getUptime()));
+            }
+        }
+        return move;
+    }
+
+    /**
+     * Returns the move from Minimax without printing anything, and records
+     * the time it took in this Player's stats. Safe to call from several
+     * threads at once unless pondering is enabled; a pondering Player must
+     * only be asked for moves from one thread (the game's).
+     * @param gameState - the current GameState.
+     * @return int index of square in GameState that should be marked.
+     */
+    public int getAIMove(GameState gameState) {
+        long start = System.nanoTime();
+        int move = -1;
+        if(ponderer != null) {
+            move = ponderer.getMove(gameState);
+        } else {
             move = Minimax.getOptimalMove(gameState, AILevel);
         }
+        stats.recordMove(System.nanoTime() - start);
         return move;
     }
 
+    /**
+     * Turns on pondering for an AI Player: searching the opponent's likely
+     * replies in the background while they think. Does nothing for humans.
+     * Not for Tournament players, whose moves come from many threads.
+     */
+    public void enablePondering() {
+        if(isAI() && ponderer == null) {
+            ponderer = new Ponderer(AILevel);
+        }
+    }
+
+    /**
+     * Tells the Player that the opponent is about to move from gameState,
+     * so it can ponder if enabled.
+     * @param gameState - the GameState the opponent will move from
+     */
+    public void opponentToMove(GameState gameState) {
+        if(ponderer != null) {
+            ponderer.startPondering(gameState);
+        }
+    }
+
     /**
      * Prompts the user for a move via CLI input
      * @return int supplied by user
@@ -101,11 +157,11 @@ class Player {
     }
 
     /**
-     * Sets the Player's win count.
-     * @param w - int number of wins
+     * Returns the Player's win, loss, draw and think-time stats.
+     * @return PlayerStats for this player
      */
-    public void setWins(int w) {
-        wins = w;
+    public PlayerStats getStats() {
+        return stats;
     }
 
     /**
@@ -113,7 +169,7 @@ class Player {
      * @return int number of wins
      */
     public int getWins() {
-        return wins;
+        return (int) stats.getWins();
     }
 
     /**
@@ -0,0 +1,115 @@
+package com.michaelxdubois.tictactoe;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Win, loss, draw and think-time counts for a Player. The counters are
+ * striped, so many games can record results for the same Player at once
+ * without contending on a single field.
+ * @author Michael DuBois
+ * @version 2013.10.15
+ */
+class PlayerStats {
+
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder losses = new LongAdder();
+    private final LongAdder draws = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder thinkNanos = new LongAdder();
+    private final LongAccumulator maxThinkNanos = new LongAccumulator(
+            new LongBinaryOperator() {
+                public long applyAsLong(long a, long b) {
+                    return Math.max(a, b);
+                }
+            }, 0);
+
+    /**
+     * Records a won game.
+     */
+    public void recordWin() {
+        wins.increment();
+    }
+
+    /**
+     * Records a lost game.
+     */
+    public void recordLoss() {
+        losses.increment();
+    }
+
+    /**
+     * Records a drawn game.
+     */
+    public void recordDraw() {
+        draws.increment();
+    }
+
+    /**
+     * Records the time taken to choose one move.
+     * @param nanos - long time spent thinking in nanoseconds
+     */
+    public void recordMove(long nanos) {
+        moves.increment();
+        thinkNanos.add(nanos);
+        maxThinkNanos.accumulate(nanos);
+    }
+
+    /**
+     * Returns the number of games won.
+     * @return long number of wins
+     */
+    public long getWins() {
+        return wins.sum();
+    }
+
+    /**
+     * Returns the number of games lost.
+     * @return long number of losses
+     */
+    public long getLosses() {
+        return losses.sum();
+    }
+
+    /**
+     * Returns the number of games drawn.
+     * @return long number of draws
+     */
+    public long getDraws() {
+        return draws.sum();
+    }
+
+    /**
+     * Returns the number of games played.
+     * @return long wins + losses + draws
+     */
+    public long getGames() {
+        return getWins() + getLosses() + getDraws();
+    }
+
+    /**
+     * Returns the number of moves timed with recordMove().
+     * @return long number of moves
+     */
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    /**
+     * Returns the mean time taken per move.
+     * @return double milliseconds, zero if no moves were recorded
+     */
+    public double getMeanThinkMillis() {
+        long n = getMoves();
+        return (n == 0) ? 0 : thinkNanos.sum() / 1e6 / n;
+    }
+
+    /**
+     * Returns the longest time taken for a single move.
+     * @return double milliseconds
+     */
+    public double getMaxThinkMillis() {
+        return maxThinkNanos.get() / 1e6;
+    }
+}
@@ -0,0 +1,115 @@
+package com.michaelxdubois.tictactoe;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Searches on a background thread while the opponent is thinking. Each
+ * likely opponent reply is searched in turn and the answers are kept in a
+ * SearchCache, so that when the real reply arrives the AI can often answer
+ * straight away.
+ * @author Michael DuBois
+ * @version 2013.10.16
+ */
+class Ponderer {
+
+    private int depth;
+    private SearchCache cache = new SearchCache();
+    private ExecutorService executor;
+    // Pending or finished background searches, by board code after the reply
+    private Map<Integer, Future<Integer>> guesses =
+        new HashMap<Integer, Future<Integer>>();
+
+    /**
+     * Constructs a Ponderer.
+     * @param depth - int Minimax depth of the AI that will use it
+     */
+    public Ponderer(int depth) {
+        this.depth = depth;
+        executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "ponder");
+                // Never keep the game running just to finish pondering
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Starts searching the opponent's likely replies from gameState, most
+     * likely first. Replaces any pondering already in progress.
+     * @param gameState - the GameState the opponent is about to move from
+     */
+    public void startPondering(GameState gameState) {
+        stopPondering(null);
+        if(gameState.isTerminal()) {
+            return;
+        }
+        // The opponent's best-looking replies are the likeliest ones
+        for(int reply : new MoveOrderer(cache).orderMoves(gameState, depth)) {
+            final GameState guess = new GameState(gameState, reply);
+            if(guess.isTerminal()) {
+                continue;
+            }
+            guesses.put(guess.getBoardCode(), executor.submit(
+                        new Callable<Integer>() {
+                            public Integer call() {
+                                return Minimax.getOptimalMove(
+                                        guess, depth, cache);
+                            }
+                        }));
+        }
+    }
+
+    /**
+     * Returns the optimal move from gameState, using the pondered answer if
+     * there is one. Pondering on every other guess is cancelled.
+     * @param gameState - the current GameState.
+     * @return int index of square in GameState that should be marked.
+     */
+    public int getMove(GameState gameState) {
+        Future<Integer> guess = stopPondering(gameState);
+        boolean interrupted = false;
+        if(guess != null) {
+            try {
+                // Done already, or next in line now the others are cancelled
+                return guess.get();
+            } catch(InterruptedException e) {
+                // Still owe the game a move; restore the flag once it's found
+                interrupted = true;
+            } catch(ExecutionException e) {
+                // Cancelled by a stray interrupt; search it ourselves below
+            }
+        }
+        // Not pondered, but the search still starts from the warm cache
+        int move = Minimax.getOptimalMove(gameState, depth, cache);
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return move;
+    }
+
+    /**
+     * Cancels every pondered search except the one for keep.
+     * @param keep - the GameState whose search to keep, or null for none
+     * @return Future<Integer> of the kept search, or null if there is none
+     */
+    private Future<Integer> stopPondering(GameState keep) {
+        Future<Integer> kept = null;
+        if(keep != null) {
+            kept = guesses.remove(keep.getBoardCode());
+        }
+        for(Future<Integer> guess : guesses.values()) {
+            guess.cancel(true);
+        }
+        guesses.clear();
+        return kept;
+    }
+}
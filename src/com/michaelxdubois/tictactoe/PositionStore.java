@@ -0,0 +1,457 @@
+package com.michaelxdubois.tictactoe;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A columnar store of Tic Tac Toe positions for bulk analysis. Each field
+ * is its own primitive array indexed by position, so whole datasets can be
+ * expanded, evaluated and saved without building a GameState per position.
+ * @author Michael DuBois
+ * @version 2013.10.14
+ */
+class PositionStore {
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2) {
+            System.out.println(
+                    "Invalid arguments. \n" +
+                    "Usage: analyze outFile depth");
+            return;
+        }
+        File file = new File(args[0]);
+        int depth = 0;
+        try {
+            depth = Integer.parseInt(args[1]);
+        } catch(NumberFormatException e) {
+            // Falls through to the usage message below
+        }
+        if(depth < 1) {
+            System.out.println(
+                    "Invalid arguments. depth must be at least 1. \n" +
+                    "Usage: analyze outFile depth");
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        // Every game prefix, one store per ply, merged into one store
+        PositionStore all = new PositionStore(1);
+        PositionStore ply = new PositionStore(1);
+        ply.add(new GameState());
+        while(ply.size() > 0) {
+            all.addAll(ply);
+            ply = ply.expandChildren(threads);
+        }
+        all.evaluate(depth, threads);
+        all.save(file);
+        System.out.println(String.format(
+                    "Scored %d positions at depth %d in %d ms, saved to %s",
+                    all.size(), depth,
+                    (System.nanoTime() - start) / 1000000, file));
+    }
+
+    private static final int FILE_MAGIC = 0x54545450; // "TTTP"
+    private static final int FILE_VERSION = 1;
+    private static final int HEADER_BYTES = 3*4;
+    // Bytes stored per position: code, moving, filled, winner, value, move
+    private static final int POSITION_BYTES = 4 + 1 + 1 + 1 + 4 + 1;
+    private static final int NO_MOVE = -1;
+
+    private int size = 0;
+    private int[] boardCodes;
+    private byte[] movingPlayers;
+    private byte[] filledSquares;
+    private byte[] winners;
+    // Minimax score (P1 maximizing) and best move, once evaluated
+    private int[] values;
+    private byte[] bestMoves;
+
+    /**
+     * Constructs an empty PositionStore.
+     * @param capacity - int initial number of positions to make room for
+     */
+    public PositionStore(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * Allocates (or grows) the columns, keeping existing positions.
+     * @param capacity - int number of positions to make room for
+     */
+    private void allocate(int capacity) {
+        if(boardCodes == null) {
+            boardCodes = new int[capacity];
+            movingPlayers = new byte[capacity];
+            filledSquares = new byte[capacity];
+            winners = new byte[capacity];
+            values = new int[capacity];
+            bestMoves = new byte[capacity];
+        } else {
+            boardCodes = Arrays.copyOf(boardCodes, capacity);
+            movingPlayers = Arrays.copyOf(movingPlayers, capacity);
+            filledSquares = Arrays.copyOf(filledSquares, capacity);
+            winners = Arrays.copyOf(winners, capacity);
+            values = Arrays.copyOf(values, capacity);
+            bestMoves = Arrays.copyOf(bestMoves, capacity);
+        }
+    }
+
+    /**
+     * Makes room for at least n more positions.
+     * @param n - int number of positions about to be added
+     */
+    private void ensureRoom(int n) {
+        if(size + n > boardCodes.length) {
+            allocate(Math.max(size + n, 2*boardCodes.length));
+        }
+    }
+
+    /**
+     * Appends a position. Its value and best move are unset until evaluate().
+     * @param g - the GameState to store
+     * @return int index of the stored position
+     */
+    public int add(GameState g) {
+        return add(g.getBoardCode());
+    }
+
+    /**
+     * Appends a position. Its value and best move are unset until evaluate().
+     * @param boardCode - int board code of the position (see GameState)
+     * @return int index of the stored position
+     */
+    public int add(int boardCode) {
+        if(boardCode < 0 || boardCode >= GameState.BOARD_CODES) {
+            throw new IllegalArgumentException(
+                    boardCode + " is not a valid board code.");
+        }
+        ensureRoom(1);
+        setPosition(size, boardCode, new int[GameState.BOARD_SQUARES]);
+        return size++;
+    }
+
+    /**
+     * Appends every position of another store, including evaluations.
+     * @param other - the PositionStore to copy from
+     */
+    public void addAll(PositionStore other) {
+        ensureRoom(other.size);
+        System.arraycopy(other.boardCodes, 0, boardCodes, size, other.size);
+        System.arraycopy(
+                other.movingPlayers, 0, movingPlayers, size, other.size);
+        System.arraycopy(
+                other.filledSquares, 0, filledSquares, size, other.size);
+        System.arraycopy(other.winners, 0, winners, size, other.size);
+        System.arraycopy(other.values, 0, values, size, other.size);
+        System.arraycopy(other.bestMoves, 0, bestMoves, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Fills in the columns derived from a board code at index i.
+     * @param i - int index of the position
+     * @param boardCode - int board code of the position
+     * @param squares - int[] scratch space BOARD_SQUARES long
+     */
+    private void setPosition(int i, int boardCode, int[] squares) {
+        int filled = GameState.decodeBoard(boardCode, squares);
+        boardCodes[i] = boardCode;
+        filledSquares[i] = (byte) filled;
+        // P1 moves first, so P1 is moving whenever an even number are filled
+        movingPlayers[i] = 
+            (byte) ((filled % 2 == 0) ? GameState.P1 : GameState.P2);
+        winners[i] = (byte) winnerOf(squares);
+        values[i] = 0;
+        bestMoves[i] = NO_MOVE;
+    }
+
+    /**
+     * Returns the winner of a board.
+     * @param squares - int[] of tokens
+     * @return int GameState.P1 or GameState.P2 or zero if no winner
+     */
+    private static int winnerOf(int[] squares) {
+        for(int[] run : GameState.RUNS) {
+            int sum = 0;
+            for(int idx : run) {
+                sum += squares[idx];
+            }
+            if(sum == run.length*GameState.P1) {
+                return GameState.P1;
+            } else if(sum == run.length*GameState.P2) {
+                return GameState.P2;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns true if the position at index i ends the game.
+     * @param i - int index of the position
+     * @return boolean, true if game tied or a player won
+     */
+    public boolean isTerminal(int i) {
+        return winners[i] != 0 || filledSquares[i] == GameState.BOARD_SQUARES;
+    }
+
+    /**
+     * Returns a store of every child of every non-terminal position, in
+     * order of parent then square index. Children are generated in
+     * parallel, each worker writing its own range of the new arrays.
+     * @param threads - int number of worker threads
+     * @return PositionStore of children, not yet evaluated
+     */
+    public PositionStore expandChildren(int threads) {
+        // Each parent's children start at the sum of its predecessors' counts
+        final int[] offsets = new int[size + 1];
+        for(int i=0; i < size; i++) {
+            int children = isTerminal(i) ? 0 :
+                GameState.BOARD_SQUARES - filledSquares[i];
+            offsets[i + 1] = offsets[i] + children;
+        }
+        final PositionStore children = new PositionStore(offsets[size]);
+        children.size = offsets[size];
+        forEachRange(threads, new Range() {
+            public void run(int from, int to) {
+                int[] squares = new int[GameState.BOARD_SQUARES];
+                for(int i=from; i < to; i++) {
+                    if(offsets[i + 1] == offsets[i]) {
+                        continue;
+                    }
+                    int code = boardCodes[i];
+                    // Digit that the moving player writes into empty squares
+                    int digit = (movingPlayers[i] == GameState.P1) ? 1 : 2;
+                    int child = offsets[i];
+                    int place = 1;
+                    for(int sq=0; sq < GameState.BOARD_SQUARES; sq++) {
+                        if((code / place) % 3 == 0) {
+                            children.setPosition(
+                                    child++, code + digit*place, squares);
+                        }
+                        place *= 3;
+                    }
+                }
+            }
+        });
+        return children;
+    }
+
+    /**
+     * Scores every position with Minimax and records the best move from
+     * each non-terminal one, both from a single search per position.
+     * Positions are evaluated in parallel.
+     * @param depth - int depth to search from each position, at least 1
+     * @param threads - int number of worker threads
+     */
+    public void evaluate(final int depth, int threads) {
+        if(depth < 1) {
+            throw new IllegalArgumentException(
+                    "Depth must be at least 1, not " + depth + ".");
+        }
+        forEachRange(threads, new Range() {
+            public void run(int from, int to) {
+                // One orderer per range: its tables stay useful across
+                // neighbouring positions and are allocated only once.
+                MoveOrderer orderer = new MoveOrderer();
+                int[] score = new int[1];
+                for(int i=from; i < to; i++) {
+                    if(isTerminal(i)) {
+                        values[i] = winners[i]*Minimax.WIN_SCORE;
+                        bestMoves[i] = NO_MOVE;
+                        continue;
+                    }
+                    GameState g = new GameState(boardCodes[i]);
+                    bestMoves[i] = (byte) Minimax.getOptimalMove(
+                            g, depth, orderer, score);
+                    values[i] = score[0];
+                }
+            }
+        });
+    }
+
+    /**
+     * Work on a range of positions [from, to).
+     */
+    private interface Range {
+        void run(int from, int to);
+    }
+
+    /**
+     * Splits [0, size) into one range per thread and runs them in a pool.
+     * @param threads - int number of worker threads
+     * @param range - the Range to run on each piece
+     */
+    private void forEachRange(int threads, final Range range) {
+        threads = Math.max(1, Math.min(threads, size));
+        if(threads == 1) {
+            range.run(0, size);
+            return;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for(int t=0; t < threads; t++) {
+                final int from = (int) ((long) size*t / threads);
+                final int to = (int) ((long) size*(t + 1) / threads);
+                results.add(pool.submit(new Callable<Void>() {
+                    public Void call() {
+                        range.run(from, to);
+                        return null;
+                    }
+                }));
+            }
+            for(Future<Void> result : results) {
+                result.get();
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during bulk work.");
+        } catch(ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Saves the store to a file through a memory-mapped buffer.
+     * @param file - the File to write, replaced if it exists
+     */
+    public void save(File file) throws IOException {
+        long bytes = HEADER_BYTES + (long) size*POSITION_BYTES;
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(bytes);
+            MappedByteBuffer buf = raf.getChannel().map(
+                    FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buf.putInt(FILE_MAGIC).putInt(FILE_VERSION).putInt(size);
+            buf.asIntBuffer().put(boardCodes, 0, size);
+            buf.position(buf.position() + 4*size);
+            buf.put(movingPlayers, 0, size);
+            buf.put(filledSquares, 0, size);
+            buf.put(winners, 0, size);
+            buf.asIntBuffer().put(values, 0, size);
+            buf.position(buf.position() + 4*size);
+            buf.put(bestMoves, 0, size);
+            buf.force();
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Loads a store saved by save() through a memory-mapped buffer.
+     * @param file - the File to read
+     * @return PositionStore with the saved positions and evaluations
+     */
+    public static PositionStore load(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            MappedByteBuffer buf = raf.getChannel().map(
+                    FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            if(buf.getInt() != FILE_MAGIC || buf.getInt() != FILE_VERSION) {
+                throw new IOException(file + " is not a position store.");
+            }
+            int n = buf.getInt();
+            if(buf.remaining() != (long) n*POSITION_BYTES) {
+                throw new IOException(file + " is truncated.");
+            }
+            PositionStore store = new PositionStore(n);
+            buf.asIntBuffer().get(store.boardCodes, 0, n);
+            buf.position(buf.position() + 4*n);
+            buf.get(store.movingPlayers, 0, n);
+            buf.get(store.filledSquares, 0, n);
+            buf.get(store.winners, 0, n);
+            buf.asIntBuffer().get(store.values, 0, n);
+            buf.position(buf.position() + 4*n);
+            buf.get(store.bestMoves, 0, n);
+            store.size = n;
+            return store;
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Returns the position at index i as a GameState.
+     * @param i - int index of the position
+     * @return GameState for the position (its last move is unknown)
+     */
+    public GameState getGameState(int i) {
+        return new GameState(boardCodes[i]);
+    }
+
+    /**
+     * Returns the number of positions stored.
+     * @return int number of positions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the board code of the position at index i.
+     * @param i - int index of the position
+     * @return int board code (see GameState.getBoardCode())
+     */
+    public int getBoardCode(int i) {
+        return boardCodes[i];
+    }
+
+    /**
+     * Returns the token of the player moving next at index i.
+     * @param i - int index of the position
+     * @return int GameState.P1 or GameState.P2
+     */
+    public int getMovingPlayer(int i) {
+        return movingPlayers[i];
+    }
+
+    /**
+     * Returns the number of squares filled at index i.
+     * @param i - int index of the position
+     * @return int number of filled squares
+     */
+    public int getFilledSquares(int i) {
+        return filledSquares[i];
+    }
+
+    /**
+     * Returns the winner at index i.
+     * @param i - int index of the position
+     * @return int GameState.P1 or GameState.P2 or zero if no winner
+     */
+    public int getWinner(int i) {
+        return winners[i];
+    }
+
+    /**
+     * Returns the Minimax score of the position at index i (P1 maximizing).
+     * @param i - int index of the position
+     * @return int score, zero until evaluate() has run
+     */
+    public int getValue(int i) {
+        return values[i];
+    }
+
+    /**
+     * Returns the best move from the position at index i.
+     * @param i - int index of the position
+     * @return int index of the square, or -1 if terminal or not evaluated
+     */
+    public int getBestMove(int i) {
+        return bestMoves[i];
+    }
+}
@@ -0,0 +1,56 @@
+package com.michaelxdubois.tictactoe;
+
+import java.util.List;
+
+/**
+ * Compares Minimax node counts with and without move ordering by searching
+ * every reachable non-terminal position at each AI level.
+ * @author Michael DuBois
+ * @version 2013.10.12
+ */
+class SearchBenchmark {
+
+    public static void main(String[] args) {
+        List<GameState> positions = GameState.reachablePositions();
+        System.out.println(positions.size() + " non-terminal positions");
+        System.out.println(
+                "AI level   unordered nodes     ordered nodes   ratio" +
+                "   moves changed");
+        for(int level=1; level <= Minimax.MAX_DEPTH; level++) {
+            compare(positions, level, "AI-" + level);
+        }
+        // Outside 1-9, Minimax searches to the end of the game like AI-9.
+        // These used to overflow the killer table. (AI-0 is a human, so
+        // depth 0 is only reachable by calling Minimax directly.)
+        System.out.println("Out-of-range depths:");
+        compare(positions, 0, "depth 0");
+        compare(positions, 12, "AI-12");
+    }
+
+    /**
+     * Prints node counts with and without ordering at one depth, and how
+     * many chosen moves differ.
+     * @param positions - List<GameState> to search from
+     * @param level - int depth to search
+     * @param label - String naming the row
+     */
+    private static void compare(List<GameState> positions, int level,
+            String label) {
+        MoveOrderer unordered = new MoveOrderer(false);
+        long ordered = 0;
+        int movesChanged = 0;
+        for(GameState g : positions) {
+            int before = Minimax.getOptimalMove(g, level, unordered);
+            MoveOrderer orderer = new MoveOrderer();
+            int after = Minimax.getOptimalMove(g, level, orderer);
+            ordered += orderer.getNodeCount();
+            if(before != after) {
+                movesChanged++;
+            }
+        }
+        System.out.println(String.format("%-8s%17d %17d %7.3f %15d",
+                    label, unordered.getNodeCount(), ordered,
+                    (double) ordered / unordered.getNodeCount(),
+                    movesChanged));
+    }
+}
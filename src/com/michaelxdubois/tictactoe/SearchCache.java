@@ -0,0 +1,69 @@
+package com.michaelxdubois.tictactoe;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Search results shared between threads: the best move found from each
+ * board (a transposition table that MoveOrderer uses for ordering) and the
+ * optimal move from each board at each search depth.
+ * @author Michael DuBois
+ * @version 2013.10.16
+ */
+class SearchCache {
+
+    // Both tables store move + 1, so zero means nothing cached
+    private final AtomicIntegerArray bestMoves =
+        new AtomicIntegerArray(GameState.BOARD_CODES);
+    private final AtomicIntegerArray optimalMoves = new AtomicIntegerArray(
+            (GameState.BOARD_SQUARES + 1)*GameState.BOARD_CODES);
+
+    /**
+     * Returns the best move found so far from a board.
+     * @param boardCode - int board code (see GameState.getBoardCode())
+     * @return int index of square, or -1 if none is cached
+     */
+    public int getBestMove(int boardCode) {
+        return bestMoves.get(boardCode) - 1;
+    }
+
+    /**
+     * Records the best move found from a board.
+     * @param boardCode - int board code
+     * @param move - int index of square
+     */
+    public void putBestMove(int boardCode, int move) {
+        bestMoves.set(boardCode, move + 1);
+    }
+
+    /**
+     * Returns the optimal move from a board at a search depth.
+     * @param boardCode - int board code
+     * @param depth - int search depth, at most GameState.BOARD_SQUARES
+     * @return int index of square, or -1 if not cached
+     */
+    public int getOptimalMove(int boardCode, int depth) {
+        return optimalMoves.get(optimalIndex(boardCode, depth)) - 1;
+    }
+
+    /**
+     * Records the optimal move from a board at a search depth.
+     * @param boardCode - int board code
+     * @param depth - int search depth, at most GameState.BOARD_SQUARES
+     * @param move - int index of square
+     */
+    public void putOptimalMove(int boardCode, int depth, int move) {
+        optimalMoves.set(optimalIndex(boardCode, depth), move + 1);
+    }
+
+    /**
+     * Returns the index of a board and depth in optimalMoves.
+     * @param boardCode - int board code
+     * @param depth - int search depth; deeper searches than the board has
+     *  squares give the same answer, so they share a slot
+     * @return int index
+     */
+    private static int optimalIndex(int boardCode, int depth) {
+        return Math.min(depth, GameState.BOARD_SQUARES)*GameState.BOARD_CODES +
+            boardCode;
+    }
+}
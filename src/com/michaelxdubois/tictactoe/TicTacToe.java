@@ -22,6 +22,11 @@ class TicTacToe {
         String player1 = args[0];
         String player2 = args[1];
         int numMatches = (args.length >= 3) ? Integer.parseInt(args[2]) : 1;
+        // -Dtictactoe.warmup=<millis> gets the JIT going before the first move
+        long warmupMillis = Long.getLong("tictactoe.warmup", 0);
+        if(warmupMillis > 0) {
+            Warmup.run(warmupMillis);
+        }
         TicTacToe ticTacToe = new TicTacToe(player1, player2, numMatches);
         ticTacToe.run();
 
@@ -40,6 +45,11 @@ class TicTacToe {
     public TicTacToe(String p1, String p2, int n) {
         this.player1 = new Player(p1);
         this.player2 = new Player(p2);
+        // -Dtictactoe.ponder=true lets AIs think during a human's turn
+        if(Boolean.getBoolean("tictactoe.ponder")) {
+            player1.enablePondering();
+            player2.enablePondering();
+        }
         this.numMatches = n;
     }
 
@@ -62,9 +72,14 @@ class TicTacToe {
             if(winningPlayer != null) {
                 System.out.println(winningPlayer.getName() + 
                         " wins ROUND " + (i+1) + "!");
-                winningPlayer.setWins(winningPlayer.getWins() + 1);
+                Player losingPlayer = 
+                    (winningPlayer == player1) ? player2 : player1;
+                winningPlayer.getStats().recordWin();
+                losingPlayer.getStats().recordLoss();
             } else {
                 System.out.println("TIED ROUND " + (i+1) + ".");
+                player1.getStats().recordDraw();
+                player2.getStats().recordDraw();
                 numTies++;
             }
             System.out.print(formatLine(CONSOLE_WIDTH, '='));
@@ -89,15 +104,16 @@ class TicTacToe {
         System.out.println(gameState.toString());
         int i = 0;
         while(!gameState.isTerminal()) {
+            Player mover = (i % 2 == 0) ? firstPlayer : secondPlayer;
+            Player waiter = (i % 2 == 0) ? secondPlayer : firstPlayer;
+            // Only worth pondering while a human thinks; AI turns are quick
+            if(!mover.isAI()) {
+                waiter.opponentToMove(gameState);
+            }
             // Ask next player for move until they provide a valid one.
             GameState newGameState = null;
             while(newGameState == null) {
-                int move = -1;
-                if(i % 2 == 0) {
-                    move = firstPlayer.getNextMove(gameState);
-                } else {
-                    move = secondPlayer.getNextMove(gameState);
-                }
+                int move = mover.getNextMove(gameState);
                 try {
                     newGameState = new GameState(gameState, move);
                 } catch (IllegalArgumentException e) {
@@ -0,0 +1,383 @@
+package com.michaelxdubois.tictactoe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A round-robin or Swiss tournament among many AI players. Games are run
+ * on a pool of worker threads and the results are summarized as a table of
+ * Elo ratings.
+ * @author Michael DuBois
+ * @version 2013.10.15
+ */
+class Tournament {
+
+    public static void main(String[] args) {
+        int swissRounds = 0;
+        int gamesPerPairing = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> names = new ArrayList<String>();
+        try {
+            for(int i=0; i < args.length; i++) {
+                if(args[i].equals("--swiss")) {
+                    swissRounds = Integer.parseInt(args[++i]);
+                } else if(args[i].equals("--games")) {
+                    gamesPerPairing = Integer.parseInt(args[++i]);
+                } else if(args[i].equals("--threads")) {
+                    threads = Integer.parseInt(args[++i]);
+                } else {
+                    names.add(args[i]);
+                }
+            }
+        } catch(RuntimeException e) {
+            names.clear();
+        }
+        if(names.size() < 2) {
+            System.out.println(
+                    "Invalid arguments. \n" +
+                    "Usage: tournament [--swiss rounds] [--games n] " +
+                    "[--threads n] AI-a AI-b [AI-c ...]");
+            return;
+        }
+
+        Tournament tournament = null;
+        try {
+            tournament = new Tournament(names, gamesPerPairing, threads);
+        } catch(IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        long start = System.nanoTime();
+        if(swissRounds > 0) {
+            tournament.runSwiss(swissRounds);
+        } else {
+            tournament.runRoundRobin();
+        }
+        System.out.println(String.format("%d games in %d ms",
+                    tournament.getGamesPlayed(),
+                    (System.nanoTime() - start) / 1000000));
+        System.out.print(tournament.formatRatings());
+    }
+
+    public static final double INITIAL_RATING = 1500;
+    // Every player gets one virtual draw against an INITIAL_RATING player,
+    // which keeps ratings finite for players who win or lose every game.
+    private static final double PRIOR_DRAWS = 1;
+    private static final int MAX_RATING_ITERATIONS = 10000;
+    private static final double RATING_TOLERANCE = 0.001;
+
+    private List<Player> players = new ArrayList<Player>();
+    private int gamesPerPairing = 1;
+    private int threads = 1;
+    // Points (2 per win, 1 per draw) and games of player i against player j
+    private LongAdder[][] points;
+    private LongAdder[][] games;
+
+    /**
+     * Constructs a Tournament.
+     * @param names - List<String> of "AI-*" player names, at least two
+     * @param gamesPerPairing - int games per pairing and colour
+     * @param threads - int number of worker threads
+     */
+    public Tournament(List<String> names, int gamesPerPairing, int threads) {
+        for(String name : names) {
+            // Check the prefix first: Player can't parse names under 3 chars
+            if(!name.startsWith("AI-")) {
+                throw new IllegalArgumentException(name +
+                        " is not an AI. Tournaments are AI-only.");
+            }
+            Player player = new Player(name);
+            if(!player.isAI()) {
+                throw new IllegalArgumentException(name +
+                        " is not an AI. Tournaments are AI-only.");
+            }
+            players.add(player);
+        }
+        this.gamesPerPairing = Math.max(1, gamesPerPairing);
+        this.threads = Math.max(1, threads);
+        int n = players.size();
+        points = new LongAdder[n][n];
+        games = new LongAdder[n][n];
+        for(int i=0; i < n; i++) {
+            for(int j=0; j < n; j++) {
+                points[i][j] = new LongAdder();
+                games[i][j] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Plays every player against every other, each taking the first turn
+     * gamesPerPairing times.
+     */
+    public void runRoundRobin() {
+        List<int[]> pairings = new ArrayList<int[]>();
+        for(int i=0; i < players.size(); i++) {
+            for(int j=i + 1; j < players.size(); j++) {
+                pairings.add(new int[] {i, j});
+            }
+        }
+        playPairings(pairings);
+    }
+
+    /**
+     * Plays rounds of a Swiss tournament: each round pairs players with
+     * similar scores who have not met yet. With an odd number of players
+     * the lowest-ranked player without a bye sits the round out.
+     * @param rounds - int number of rounds to play
+     */
+    public void runSwiss(int rounds) {
+        int n = players.size();
+        boolean[][] met = new boolean[n][n];
+        boolean[] hadBye = new boolean[n];
+        for(int round=0; round < rounds; round++) {
+            List<Integer> standings = new ArrayList<Integer>();
+            for(int i=0; i < n; i++) {
+                standings.add(i);
+            }
+            final long[] score = new long[n];
+            for(int i=0; i < n; i++) {
+                score[i] = totalPoints(i);
+            }
+            Collections.sort(standings, new Comparator<Integer>() {
+                public int compare(Integer a, Integer b) {
+                    return Long.compare(score[b], score[a]);
+                }
+            });
+            if(standings.size() % 2 == 1) {
+                int bye = standings.size() - 1;
+                for(int k=bye; k >= 0; k--) {
+                    if(!hadBye[standings.get(k)]) {
+                        bye = k;
+                        break;
+                    }
+                }
+                hadBye[standings.remove(bye)] = true;
+            }
+            List<int[]> pairings = new ArrayList<int[]>();
+            while(!standings.isEmpty()) {
+                int a = standings.remove(0);
+                // Closest-ranked opponent not yet met, else the closest
+                int pick = 0;
+                for(int k=0; k < standings.size(); k++) {
+                    if(!met[a][standings.get(k)]) {
+                        pick = k;
+                        break;
+                    }
+                }
+                int b = standings.remove(pick);
+                met[a][b] = true;
+                met[b][a] = true;
+                pairings.add(new int[] {a, b});
+            }
+            playPairings(pairings);
+        }
+    }
+
+    /**
+     * Dispatches the games of every pairing to the worker pool and waits
+     * for them to finish.
+     * @param pairings - List<int[]> of player index pairs
+     */
+    private void playPairings(List<int[]> pairings) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for(int[] pairing : pairings) {
+                for(int g=0; g < gamesPerPairing; g++) {
+                    results.add(pool.submit(
+                                gameTask(pairing[0], pairing[1])));
+                    results.add(pool.submit(
+                                gameTask(pairing[1], pairing[0])));
+                }
+            }
+            for(Future<Void> result : results) {
+                result.get();
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during tournament.");
+        } catch(ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Returns a task that plays one game and records its result.
+     * @param first - int index of the player who plays first
+     * @param second - int index of the player who plays second
+     * @return Callable<Void> that plays the game
+     */
+    private Callable<Void> gameTask(final int first, final int second) {
+        return new Callable<Void>() {
+            public Void call() {
+                recordResult(first, second,
+                        playGame(players.get(first), players.get(second)));
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Plays a single silent game.
+     * @param firstPlayer - the Player who plays first
+     * @param secondPlayer - the Player who plays second
+     * @return int winning token GameState.P1 or GameState.P2, zero if tied
+     */
+    private int playGame(Player firstPlayer, Player secondPlayer) {
+        GameState gameState = new GameState();
+        while(!gameState.isTerminal()) {
+            Player mover = (gameState.getMovingPlayer() == GameState.P1) ?
+                firstPlayer : secondPlayer;
+            gameState = new GameState(gameState, mover.getAIMove(gameState));
+        }
+        return gameState.getWinner();
+    }
+
+    /**
+     * Records a game result in both players' stats and the points table.
+     * @param first - int index of the player who played first
+     * @param second - int index of the player who played second
+     * @param winner - int winning token, zero if tied
+     */
+    private void recordResult(int first, int second, int winner) {
+        PlayerStats firstStats = players.get(first).getStats();
+        PlayerStats secondStats = players.get(second).getStats();
+        if(winner == GameState.P1) {
+            firstStats.recordWin();
+            secondStats.recordLoss();
+            points[first][second].add(2);
+        } else if(winner == GameState.P2) {
+            firstStats.recordLoss();
+            secondStats.recordWin();
+            points[second][first].add(2);
+        } else {
+            firstStats.recordDraw();
+            secondStats.recordDraw();
+            points[first][second].increment();
+            points[second][first].increment();
+        }
+        games[first][second].increment();
+        games[second][first].increment();
+    }
+
+    /**
+     * Returns player i's points against everyone (2 per win, 1 per draw).
+     * @param i - int index of the player
+     * @return long total points
+     */
+    private long totalPoints(int i) {
+        long total = 0;
+        for(LongAdder p : points[i]) {
+            total += p.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the total number of games played so far.
+     * @return long number of games
+     */
+    public long getGamesPlayed() {
+        long total = 0;
+        for(Player player : players) {
+            total += player.getStats().getGames();
+        }
+        return total / 2;
+    }
+
+    /**
+     * Fits Elo ratings to all results so far. Unlike updating after each
+     * game, the fit does not depend on the order the workers finished in.
+     * @return double[] rating of each player, in the order given
+     */
+    public double[] computeRatings() {
+        int n = players.size();
+        double[][] played = new double[n][n];
+        double[] score = new double[n];
+        double[] total = new double[n];
+        for(int i=0; i < n; i++) {
+            for(int j=0; j < n; j++) {
+                played[i][j] = games[i][j].sum();
+                score[i] += points[i][j].sum() / 2.0;
+                total[i] += played[i][j];
+            }
+            score[i] += PRIOR_DRAWS / 2;
+            total[i] += PRIOR_DRAWS;
+        }
+        double[] ratings = new double[n];
+        Arrays.fill(ratings, INITIAL_RATING);
+        for(int iter=0; iter < MAX_RATING_ITERATIONS; iter++) {
+            double maxChange = 0;
+            for(int i=0; i < n; i++) {
+                double expected = PRIOR_DRAWS *
+                    expectedScore(ratings[i], INITIAL_RATING);
+                for(int j=0; j < n; j++) {
+                    expected += played[i][j] *
+                        expectedScore(ratings[i], ratings[j]);
+                }
+                double change = 400 * (score[i] - expected) / total[i];
+                ratings[i] += change;
+                maxChange = Math.max(maxChange, Math.abs(change));
+            }
+            if(maxChange < RATING_TOLERANCE) {
+                break;
+            }
+        }
+        return ratings;
+    }
+
+    /**
+     * Returns the expected score of a player rated a against one rated b.
+     * @param a - double rating of the player
+     * @param b - double rating of the opponent
+     * @return double expected score between 0 and 1
+     */
+    private static double expectedScore(double a, double b) {
+        return 1 / (1 + Math.pow(10, (b - a) / 400));
+    }
+
+    /**
+     * Returns a table of players sorted by rating with their stats.
+     * @return String table, one line per player
+     */
+    public String formatRatings() {
+        final double[] ratings = computeRatings();
+        List<Integer> order = new ArrayList<Integer>();
+        for(int i=0; i < players.size(); i++) {
+            order.add(i);
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Double.compare(ratings[b], ratings[a]);
+            }
+        });
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-4s %-12s %7s %7s %7s %7s %9s %9s%n",
+                    "#", "player", "elo", "wins", "losses", "draws",
+                    "mean ms", "max ms"));
+        int rank = 1;
+        for(int i : order) {
+            Player player = players.get(i);
+            PlayerStats stats = player.getStats();
+            table.append(String.format(
+                        "%-4d %-12s %7.0f %7d %7d %7d %9.3f %9.3f%n",
+                        rank++, player.getName(), ratings[i],
+                        stats.getWins(), stats.getLosses(), stats.getDraws(),
+                        stats.getMeanThinkMillis(),
+                        stats.getMaxThinkMillis()));
+        }
+        return table.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.michaelxdubois.tictactoe;
+
+import java.util.List;
+
+/**
+ * Pre-warms the GameState and Minimax hot paths with a canned workload so
+ * that the JIT has compiled them before the first real AI move.
+ * @author Michael DuBois
+ * @version 2013.10.13
+ */
+class Warmup {
+
+    // Positions with at least this many squares filled make up the workload.
+    // Their searches are small, so every hot path gets hit many times quickly.
+    private static final int MIN_FILLED_SQUARES = 2;
+
+    /**
+     * Private constructor. No Warmup instances for you.
+     */
+    private Warmup() {
+    }
+
+    /**
+     * Searches the canned workload at every AI level, deepest first, until
+     * it is done or budgetMillis have passed.
+     * @param budgetMillis - long maximum time to spend warming up
+     * @return long total number of nodes searched, so nothing is optimized
+     *  away
+     */
+    public static long run(long budgetMillis) {
+        long deadline = System.nanoTime() + budgetMillis*1000000L;
+        List<GameState> positions = GameState.reachablePositions();
+        long nodes = 0;
+        for(int level=Minimax.MAX_DEPTH; level > 0; level--) {
+            for(GameState g : positions) {
+                if(System.nanoTime() > deadline) {
+                    return nodes;
+                }
+                if(g.getFilledSquares() < MIN_FILLED_SQUARES) {
+                    continue;
+                }
+                MoveOrderer orderer = new MoveOrderer();
+                Minimax.getOptimalMove(g, level, orderer);
+                nodes += orderer.getNodeCount();
+            }
+        }
+        return nodes;
+    }
+}